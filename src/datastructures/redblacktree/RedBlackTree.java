@@ -3,9 +3,24 @@ package datastructures.redblacktree;
 import org.jetbrains.annotations.NotNull;
 import org.jetbrains.annotations.Nullable;
 
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
 import java.util.Objects;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+import java.util.function.BiFunction;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
-public class RedBlackTree<T extends Comparable> {
+public class RedBlackTree<T extends Comparable> implements SortedTree<T> {
+
+    /**
+     * approximate number of nodes below which a subtree is processed by a single thread
+     */
+    private static final int PARALLEL_THRESHOLD = 4096;
 
     private int size;
     private Node<T> root;
@@ -367,6 +382,71 @@ public class RedBlackTree<T extends Comparable> {
         return count;
     }
 
+    /**
+     * checks all red-black tree invariants in a single pass over the tree
+     * the data must be in order, no red node may have a red child,
+     * every path must have the same number of black nodes,
+     * parent pointers must match the child pointers and the size must match
+     *
+     * @throws IllegalStateException describing the first violation found
+     */
+    public void verify() {
+        if (root == null) {
+            if (size != 0)
+                throw new IllegalStateException("empty tree has size " + size);
+            return;
+        }
+        if (root.isRed)
+            throw new IllegalStateException("root " + root.data + " is red");
+        if (root.parent != null)
+            throw new IllegalStateException("root " + root.data + " has a parent");
+        int[] count = new int[1];
+        verify(root, null, null, count);
+        if (count[0] != size)
+            throw new IllegalStateException("tree holds " + count[0] + " nodes but size is " + size);
+    }
+
+    /**
+     * recursively checks the invariants of a subtree
+     *
+     * @param node  current node being looked at
+     * @param lower data no larger than every item of the subtree, null if unbounded
+     * @param upper data no smaller than every item of the subtree, null if unbounded
+     * @param count counter of the visited nodes
+     * @return the number of black nodes on every path from the node down to a null leaf
+     */
+    @SuppressWarnings("unchecked")
+    private int verify(Node<T> node, T lower, T upper, int[] count) {
+        if (node == null)
+            return 0;
+        count[0]++;
+        if (lower != null && ((Comparable<T>) node.data).compareTo(lower) < 0
+                || upper != null && ((Comparable<T>) node.data).compareTo(upper) > 0)
+            throw new IllegalStateException(node.data + " is out of order");
+        verifyLink(node, node.leftChild);
+        verifyLink(node, node.rightChild);
+        int leftBlack = verify(node.leftChild, lower, node.data, count);
+        int rightBlack = verify(node.rightChild, node.data, upper, count);
+        if (leftBlack != rightBlack)
+            throw new IllegalStateException(node.data + " has black heights " + leftBlack + " and " + rightBlack);
+        return node.isRed ? leftBlack : leftBlack + 1;
+    }
+
+    /**
+     * checks the parent pointer and the colors of a parent-child edge
+     *
+     * @param node  the parent node
+     * @param child the child node, may be a null leaf
+     */
+    private void verifyLink(@NotNull Node<T> node, Node<T> child) {
+        if (child == null)
+            return;
+        if (child.parent != node)
+            throw new IllegalStateException(child.data + " doesn't point back to its parent " + node.data);
+        if (node.isRed && child.isRed)
+            throw new IllegalStateException("red node " + node.data + " has red child " + child.data);
+    }
+
     /**
      * retrieves the aunt of the node being passed in
      *
@@ -426,7 +506,7 @@ public class RedBlackTree<T extends Comparable> {
      * @return true if empty, false otherwise.
      */
     public boolean isEmpty() {
-        return root.rightChild == null;
+        return root == null;
     }
 
     /**
@@ -437,7 +517,7 @@ public class RedBlackTree<T extends Comparable> {
      * @return true if object was added and false if not added
      */
     public boolean remove(T data) {
-        return (size-- != 0) ? remove(this.root, data) : false;
+        return remove(this.root, data);
     }
 
     /**
@@ -450,6 +530,7 @@ public class RedBlackTree<T extends Comparable> {
         // find the node containing data
         Node<T> z = null;
         Node<T> x;
+        Node<T> xParent;
         Node<T> y;
         while (node != null) {
             if (data.compareTo(node.data) == 0)
@@ -463,21 +544,25 @@ public class RedBlackTree<T extends Comparable> {
             System.out.println(ConsoleColors.RED + "Error: Couldn't find key in tree" + ConsoleColors.RESET);
             return false;
         }
+        size--;
         y = z;
         boolean yOriginalColor = y.isRed;
         if (z.leftChild == null) {
             x = z.rightChild;
+            xParent = z.parent;
             colorTransplant(z, z.rightChild);
         } else if (z.rightChild == null) {
             x = z.leftChild;
+            xParent = z.parent;
             colorTransplant(z, z.leftChild);
         } else {
             y = findMinNode(z.rightChild);
             yOriginalColor = y.isRed;
             x = y.rightChild;
             if (y.parent == z) {
-                x.parent = y;
+                xParent = y;
             } else {
+                xParent = y.parent;
                 colorTransplant(y, y.rightChild);
                 y.rightChild = z.rightChild;
                 y.rightChild.parent = y;
@@ -487,82 +572,122 @@ public class RedBlackTree<T extends Comparable> {
             y.leftChild.parent = y;
             y.isRed = z.isRed;
         }
-        if (!yOriginalColor && x != null)
-            fixRemove(x);
+        // a black node was taken out of its path
+        if (!yOriginalColor)
+            fixRemove(x, xParent);
 
         return true;
     }
 
     /**
      * fix the tree modified by the remove operation
+     * null leaves count as black nodes
      *
-     * @param node to be fixed
+     * @param node   to be fixed, may be a null leaf
+     * @param parent the parent of the node to be fixed
      */
-    private void fixRemove(@NotNull Node<T> node) {
+    private void fixRemove(Node<T> node, Node<T> parent) {
         Node<T> s;
-        while (node != root && !node.isRed) {
-            if (node == node.parent.leftChild) {
-                s = node.parent.rightChild;
+        while (node != root && isBlack(node)) {
+            if (node == parent.leftChild) {
+                s = parent.rightChild;
                 if (s.isRed) {
                     // case 3.1
                     s.isRed = false;
-                    node.parent.isRed = true;
-                    leftRotation(node.parent);
-                    s = node.parent.rightChild;
+                    parent.isRed = true;
+                    rotateLeft(parent);
+                    s = parent.rightChild;
                 }
 
-                if (!s.leftChild.isRed && !s.rightChild.isRed) {
+                if (isBlack(s.leftChild) && isBlack(s.rightChild)) {
                     // case 3.2
                     s.isRed = true;
-                    node = node.parent;
+                    node = parent;
+                    parent = node.parent;
                 } else {
-                    if (!s.rightChild.isRed) {
+                    if (isBlack(s.rightChild)) {
                         // case 3.3
                         s.leftChild.isRed = false;
                         s.isRed = true;
-                        rightRotation(s);
-                        s = node.parent.rightChild;
+                        rotateRight(s);
+                        s = parent.rightChild;
                     }
                     // case 3.4
-                    s.isRed = node.parent.isRed;
-                    node.parent.isRed = false;
+                    s.isRed = parent.isRed;
+                    parent.isRed = false;
                     s.rightChild.isRed = false;
-                    leftRotation(node.parent);
+                    rotateLeft(parent);
                     node = root;
                 }
             } else {
-                s = node.parent.leftChild;
+                s = parent.leftChild;
                 if (s.isRed) {
                     // case 3.1
                     s.isRed = false;
-                    node.parent.isRed = true;
-                    rightRotation(node.parent);
-                    s = node.parent.leftChild;
+                    parent.isRed = true;
+                    rotateRight(parent);
+                    s = parent.leftChild;
                 }
 
-                if (!s.rightChild.isRed) {
+                if (isBlack(s.leftChild) && isBlack(s.rightChild)) {
                     // case 3.2
                     s.isRed = true;
-                    node = node.parent;
+                    node = parent;
+                    parent = node.parent;
                 } else {
-                    if (!s.leftChild.isRed) {
+                    if (isBlack(s.leftChild)) {
                         // case 3.3
                         s.rightChild.isRed = false;
                         s.isRed = true;
-                        leftRotation(s);
-                        s = node.parent.leftChild;
+                        rotateLeft(s);
+                        s = parent.leftChild;
                     }
 
                     // case 3.4
-                    s.isRed = node.parent.isRed;
-                    node.parent.isRed = false;
+                    s.isRed = parent.isRed;
+                    parent.isRed = false;
                     s.leftChild.isRed = false;
-                    rightRotation(node.parent);
+                    rotateRight(parent);
                     node = root;
                 }
             }
         }
-        node.isRed = false;
+        if (node != null)
+            node.isRed = false;
+    }
+
+    /**
+     * checks the color of a node treating null leaves as black
+     *
+     * @param node the node being looked at
+     * @return true if the node is black or null
+     */
+    private boolean isBlack(Node<T> node) {
+        return node == null || !node.isRed;
+    }
+
+    /**
+     * rotates the node to the left of its right child
+     * and hooks the new top node into the place of the rotated node
+     *
+     * @param node the node being rotated
+     */
+    private void rotateLeft(@NotNull Node<T> node) {
+        Node<T> newTop = leftRotation(node);
+        colorTransplant(node, newTop);
+        node.parent = newTop;
+    }
+
+    /**
+     * rotates the node to the right of its left child
+     * and hooks the new top node into the place of the rotated node
+     *
+     * @param node the node being rotated
+     */
+    private void rotateRight(@NotNull Node<T> node) {
+        Node<T> newTop = rightRotation(node);
+        colorTransplant(node, newTop);
+        node.parent = newTop;
     }
 
     private void colorTransplant(Node<T> firstNode, Node<T> secondNode) {
@@ -586,20 +711,20 @@ public class RedBlackTree<T extends Comparable> {
     private Node<T> findMinNode(@NotNull Node<T> node) {
         while (node.leftChild != null)
             node = node.leftChild;
-        return node.parent.parent;
+        return node;
     }
 
     /**
-     * Contains the node with the min key
+     * Contains the node with the max key
      *
-     * @param node to get minimum from
-     * @return minimum node
+     * @param node to get maximum from
+     * @return maximum node
      * @see Node
      */
     private Node<T> findMaxNode(@NotNull Node<T> node) {
         while (node.rightChild != null)
             node = node.rightChild;
-        return node.parent.parent;
+        return node;
     }
 
     /**
@@ -612,10 +737,7 @@ public class RedBlackTree<T extends Comparable> {
         if (isEmpty())
             return null;
 
-        Node<T> node = root.leftChild;
-        while (node.leftChild != null)
-            node = node.leftChild;
-        return node.data;
+        return findMinNode(root).data;
     }
 
     /**
@@ -628,10 +750,7 @@ public class RedBlackTree<T extends Comparable> {
         if (isEmpty())
             return null;
 
-        Node<T> node = root.rightChild;
-        while (node.rightChild != null)
-            node = node.rightChild;
-        return node.data;
+        return findMaxNode(root).data;
     }
 
     /**
@@ -656,6 +775,332 @@ public class RedBlackTree<T extends Comparable> {
         }
     }
 
+    /**
+     * returns an iterator over the items of the tree in sorted order
+     * walks down the tree using an explicit stack instead of parent pointers
+     *
+     * @return an in-order iterator over the tree
+     */
+    @NotNull
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator();
+    }
+
+    /**
+     * in-order iterator which keeps the path of left children
+     * still to be visited on a stack
+     */
+    private class InOrderIterator implements Iterator<T> {
+        private final Deque<Node<T>> stack = new ArrayDeque<>();
+
+        private InOrderIterator() {
+            pushLeft(root);
+        }
+
+        /**
+         * pushes the node and all of its left descendants onto the stack
+         *
+         * @param node the node to start from
+         */
+        private void pushLeft(Node<T> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.leftChild;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty())
+                throw new NoSuchElementException();
+            Node<T> node = stack.pop();
+            pushLeft(node.rightChild);
+            return node.data;
+        }
+    }
+
+    /**
+     * performs the action for every item of the tree using all cores
+     * items are visited concurrently and in no particular order
+     * the tree must not be modified while the action runs
+     *
+     * @param action the action to perform on every item
+     */
+    public void forEachParallel(Consumer<? super T> action) {
+        reduce(null, (Void ignored, T data) -> {
+            action.accept(data);
+            return null;
+        }, (ignored, other) -> null);
+    }
+
+    /**
+     * reduces the items of the tree in parallel
+     * subtrees are folded separately with the accumulator and merged with the combiner
+     * so the combiner must be associative and the identity neutral for both
+     * the tree must not be modified while the reduction runs
+     *
+     * @param identity    the initial value of every subtree
+     * @param accumulator folds the next item into a partial result
+     * @param combiner    merges the partial results of two neighbouring subtrees
+     * @param <U>         type of the result
+     * @return the result of the reduction in sorted order of the items
+     */
+    public <U> U reduce(U identity, BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+        return new ReduceTask<>(root, 0, splitDepth(), identity, accumulator, combiner).invoke();
+    }
+
+    /**
+     * counts the items of the tree that match the predicate in parallel
+     * the tree must not be modified while the items are counted
+     *
+     * @param predicate the predicate being tested on every item
+     * @return the number of matching items
+     */
+    public int count(Predicate<? super T> predicate) {
+        return new CountTask(root, 0, splitDepth(), predicate).invoke();
+    }
+
+    /**
+     * copies the items of the tree in sorted order into the array in parallel
+     * the sizes of the subtrees handed to the threads are counted first
+     * so that each of them knows the offset it starts writing at
+     *
+     * @param array preallocated array with room for at least size() items
+     * @return the array that was passed in
+     * @throws IllegalArgumentException if the array is too small
+     */
+    public T[] toSortedArray(T[] array) {
+        if (array.length < size)
+            throw new IllegalArgumentException("array of length " + array.length + " can't hold " + size + " items");
+        int splitDepth = splitDepth();
+        int[] sizes = new int[2 << splitDepth];
+        // a tree that isn't split is filled in a single pass without knowing any sizes
+        if (splitDepth > 0)
+            new SizeTask(root, 1, 0, splitDepth, sizes).invoke();
+        new FillTask(root, 1, 0, splitDepth, sizes, array, 0).invoke();
+        return array;
+    }
+
+    /**
+     * calculates down to which depth subtrees are split between threads
+     * so that the subtrees below that depth hold about {@link #PARALLEL_THRESHOLD} nodes
+     *
+     * @return the depth at which subtrees are processed by a single thread
+     */
+    private int splitDepth() {
+        return size < 2 * PARALLEL_THRESHOLD ? 0 : 31 - Integer.numberOfLeadingZeros(size / PARALLEL_THRESHOLD);
+    }
+
+    /**
+     * Folds a subtree, forking the left subtree
+     * until the split depth is reached
+     *
+     * @param <U> type of the result
+     */
+    private class ReduceTask<U> extends RecursiveTask<U> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<T> node;
+        private final int depth;
+        private final int splitDepth;
+        private final U identity;
+        private final BiFunction<U, ? super T, U> accumulator;
+        private final BinaryOperator<U> combiner;
+
+        private ReduceTask(Node<T> node, int depth, int splitDepth, U identity,
+                           BiFunction<U, ? super T, U> accumulator, BinaryOperator<U> combiner) {
+            this.node = node;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+            this.identity = identity;
+            this.accumulator = accumulator;
+            this.combiner = combiner;
+        }
+
+        @Override
+        protected U compute() {
+            if (node == null)
+                return identity;
+            if (depth >= splitDepth)
+                return fold(node, identity);
+            ReduceTask<U> left = new ReduceTask<>(node.leftChild, depth + 1, splitDepth, identity, accumulator, combiner);
+            left.fork();
+            U right = new ReduceTask<>(node.rightChild, depth + 1, splitDepth, identity, accumulator, combiner).compute();
+            U middle = accumulator.apply(identity, node.data);
+            return combiner.apply(combiner.apply(left.join(), middle), right);
+        }
+
+        /**
+         * recursively folds a subtree in order on the current thread
+         *
+         * @param node   current node being looked at
+         * @param result the result folded so far
+         * @return the result after folding the subtree
+         */
+        private U fold(Node<T> node, U result) {
+            if (node == null)
+                return result;
+            result = fold(node.leftChild, result);
+            result = accumulator.apply(result, node.data);
+            return fold(node.rightChild, result);
+        }
+    }
+
+    /**
+     * Counts the items of a subtree that match a predicate
+     * summing plain counts so that no item is boxed
+     */
+    private class CountTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<T> node;
+        private final int depth;
+        private final int splitDepth;
+        private final Predicate<? super T> predicate;
+
+        private CountTask(Node<T> node, int depth, int splitDepth, Predicate<? super T> predicate) {
+            this.node = node;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+            this.predicate = predicate;
+        }
+
+        @Override
+        protected Integer compute() {
+            if (node == null)
+                return 0;
+            if (depth >= splitDepth)
+                return count(node);
+            CountTask left = new CountTask(node.leftChild, depth + 1, splitDepth, predicate);
+            left.fork();
+            int right = new CountTask(node.rightChild, depth + 1, splitDepth, predicate).compute();
+            return left.join() + right + (predicate.test(node.data) ? 1 : 0);
+        }
+
+        /**
+         * recursively counts the matching items of a subtree on the current thread
+         *
+         * @param node current node being looked at
+         * @return the number of matching items in the subtree
+         */
+        private int count(Node<T> node) {
+            if (node == null)
+                return 0;
+            return count(node.leftChild) + count(node.rightChild) + (predicate.test(node.data) ? 1 : 0);
+        }
+    }
+
+    /**
+     * Counts the nodes of a subtree and records the sizes of all subtrees
+     * down to the split depth, indexed by their position in a complete binary tree
+     * where the children of index i are 2i and 2i + 1
+     */
+    private class SizeTask extends RecursiveTask<Integer> {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<T> node;
+        private final int index;
+        private final int depth;
+        private final int splitDepth;
+        private final int[] sizes;
+
+        private SizeTask(Node<T> node, int index, int depth, int splitDepth, int[] sizes) {
+            this.node = node;
+            this.index = index;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+            this.sizes = sizes;
+        }
+
+        @Override
+        protected Integer compute() {
+            int size;
+            if (node == null) {
+                size = 0;
+            } else if (depth >= splitDepth) {
+                size = count(node);
+            } else {
+                SizeTask left = new SizeTask(node.leftChild, 2 * index, depth + 1, splitDepth, sizes);
+                left.fork();
+                int right = new SizeTask(node.rightChild, 2 * index + 1, depth + 1, splitDepth, sizes).compute();
+                size = left.join() + right + 1;
+            }
+            sizes[index] = size;
+            return size;
+        }
+
+        /**
+         * recursively counts the nodes of a subtree on the current thread
+         *
+         * @param node current node being looked at
+         * @return the number of nodes in the subtree
+         */
+        private int count(Node<T> node) {
+            return node == null ? 0 : count(node.leftChild) + count(node.rightChild) + 1;
+        }
+    }
+
+    /**
+     * Copies a subtree in order into the array starting at an offset
+     * the offsets of the subtrees are taken from the sizes recorded by {@link SizeTask}
+     */
+    private class FillTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Node<T> node;
+        private final int index;
+        private final int depth;
+        private final int splitDepth;
+        private final int[] sizes;
+        private final T[] array;
+        private final int offset;
+
+        private FillTask(Node<T> node, int index, int depth, int splitDepth, int[] sizes, T[] array, int offset) {
+            this.node = node;
+            this.index = index;
+            this.depth = depth;
+            this.splitDepth = splitDepth;
+            this.sizes = sizes;
+            this.array = array;
+            this.offset = offset;
+        }
+
+        @Override
+        protected void compute() {
+            if (node == null)
+                return;
+            if (depth >= splitDepth) {
+                fill(node, offset);
+                return;
+            }
+            int leftSize = sizes[2 * index];
+            array[offset + leftSize] = node.data;
+            invokeAll(new FillTask(node.leftChild, 2 * index, depth + 1, splitDepth, sizes, array, offset),
+                    new FillTask(node.rightChild, 2 * index + 1, depth + 1, splitDepth, sizes, array, offset + leftSize + 1));
+        }
+
+        /**
+         * recursively copies a subtree in order on the current thread
+         *
+         * @param node   current node being looked at
+         * @param offset index in the array the subtree starts at
+         * @return the index after the last item of the subtree
+         */
+        private int fill(Node<T> node, int offset) {
+            if (node == null)
+                return offset;
+            offset = fill(node.leftChild, offset);
+            array[offset++] = node.data;
+            return fill(node.rightChild, offset);
+        }
+    }
+
     /**
      * print all items in tree form.
      */
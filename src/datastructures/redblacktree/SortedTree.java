@@ -0,0 +1,105 @@
+package datastructures.redblacktree;
+
+import org.jetbrains.annotations.Nullable;
+
+/**
+ * Common operations of the red-black tree engines
+ * allows choosing an engine without changing the code using it
+ *
+ * @param <T> generic type being stored in the tree
+ * @see RedBlackTree
+ * @see TopDownRedBlackTree
+ */
+@SuppressWarnings("rawtypes")
+public interface SortedTree<T extends Comparable> extends Iterable<T> {
+
+    /**
+     * adds the data to the tree and re-balances it
+     *
+     * @param data generic data being added to tree
+     * @return true if object was added and false if not added
+     */
+    boolean add(T data);
+
+    /**
+     * checks to see if the tree contains a certain piece of data
+     *
+     * @param obj the data that is trying to be found
+     * @return true if the data was found and false if the data was not found
+     */
+    boolean contains(T obj);
+
+    /**
+     * removes the data from the tree and re-balances it
+     *
+     * @param data generic data being removed from tree
+     * @return true if object was removed and false if not found
+     */
+    boolean remove(T data);
+
+    /**
+     * returns the current number of nodes/data stored in the tree
+     *
+     * @return the number of items stored in the tree
+     */
+    int size();
+
+    /**
+     * empties all the data from the tree
+     */
+    void clear();
+
+    /**
+     * counts the number of edges in the longest path in the tree from root to leaf node
+     *
+     * @return the height of longest path in the tree
+     */
+    int height();
+
+    /**
+     * counts the number of black nodes currently in the tree
+     *
+     * @return the number of black nodes in the tree
+     */
+    int countBlack();
+
+    /**
+     * checks that the tree satisfies all red-black tree invariants
+     *
+     * @throws IllegalStateException describing the first violation found
+     */
+    void verify();
+
+    /**
+     * test if the tree is logically empty.
+     *
+     * @return true if empty, false otherwise.
+     */
+    boolean isEmpty();
+
+    /**
+     * Find the smallest item  the tree.
+     *
+     * @return the smallest item or null if empty.
+     */
+    @Nullable
+    T findMin();
+
+    /**
+     * find the largest item in the tree.
+     *
+     * @return the largest item or null if empty.
+     */
+    @Nullable
+    T findMax();
+
+    /**
+     * prints out all the nodes in the tree in order
+     */
+    void printElements();
+
+    /**
+     * print all items in tree form.
+     */
+    void printTree();
+}
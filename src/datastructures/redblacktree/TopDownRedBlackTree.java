@@ -0,0 +1,534 @@
+package datastructures.redblacktree;
+
+import org.jetbrains.annotations.NotNull;
+import org.jetbrains.annotations.Nullable;
+
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * Red-black tree which re-balances on the way down
+ * both insertion and removal finish in a single pass from the root
+ * so nodes don't need a parent pointer
+ * <p>
+ * it restructures more nodes per operation than {@link RedBlackTree}
+ * and runs slower in {@code main.Benchmark}, it trades that time for the smaller nodes
+ *
+ * @param <T> generic type being stored in the tree
+ * @see RedBlackTree
+ */
+@SuppressWarnings("rawtypes")
+public class TopDownRedBlackTree<T extends Comparable> implements SortedTree<T> {
+
+    private int size;
+    private Node<T> root;
+    /**
+     * false root above the real one so the root can be rotated like any other node
+     * reused by every operation, its right child is the root only while an operation runs
+     */
+    private final Node<T> head;
+
+    /**
+     * constructor for creating a top-down red-black tree
+     */
+    public TopDownRedBlackTree() {
+        size = 0;
+        root = null;
+        head = new Node<>(null);
+        head.isRed = false;
+    }
+
+    /**
+     * Creates a new node
+     * sets the data to the generic parameter passed in
+     * defaults both left and right children to null
+     *
+     * @param <T> generic type being stored in the tree
+     */
+    private static class Node<T> {
+        private T data;
+        private Node<T> leftChild;
+        private Node<T> rightChild;
+        private boolean isRed;
+
+        private Node(T data) {
+            this.data = data;
+            leftChild = null;
+            rightChild = null;
+            isRed = true;
+        }
+    }
+
+    /**
+     * Adds a new node to the tree at the correct null leaf node
+     * splits nodes with two red children and fixes red violations
+     * while walking down, so nothing is left to fix after the insertion
+     *
+     * @param data generic data being added to tree
+     * @return true if object was added and false if not added
+     */
+    public boolean add(T data) {
+        // tree is empty
+        if (root == null) {
+            root = new Node<>(data);
+            size++;
+            root.isRed = false;
+            return true;
+        }
+        head.rightChild = root;
+
+        // great-grandparent, grandparent, parent and current node
+        Node<T> t = head;
+        Node<T> g = null;
+        Node<T> p = null;
+        Node<T> q = root;
+        boolean dir = false;
+        boolean last = false;
+        boolean added = false;
+        while (true) {
+            if (q == null) {
+                // reached a null subtree
+                q = new Node<>(data);
+                setChild(p, dir, q);
+                size++;
+                added = true;
+            } else if (isRed(q.leftChild) && isRed(q.rightChild)) {
+                // color flip
+                q.isRed = true;
+                q.leftChild.isRed = false;
+                q.rightChild.isRed = false;
+            }
+            // consecutive red node violation
+            if (isRed(q) && isRed(p)) {
+                boolean dir2 = t.rightChild == g;
+                if (q == child(p, last))
+                    setChild(t, dir2, rotate(g, !last));
+                else
+                    setChild(t, dir2, doubleRotate(g, !last));
+            }
+            if (added)
+                break;
+            // traverse down tree, equal data goes to the right
+            last = dir;
+            dir = compare(data, q.data) >= 0;
+            if (g != null)
+                t = g;
+            g = p;
+            p = q;
+            q = child(q, dir);
+        }
+        root = head.rightChild;
+        head.rightChild = null;
+        root.isRed = false;
+        return true;
+    }
+
+    /**
+     * traverses down the tree, starting at the root
+     * checks to see if the tree contains a certain piece of data
+     *
+     * @param obj the data that is trying to be found
+     * @return true if the data was found and false if the data was not found
+     */
+    public boolean contains(T obj) {
+        Node<T> current = root;
+        while (current != null) {
+            int cmp = compare(obj, current.data);
+            // data found
+            if (cmp == 0)
+                return true;
+            current = cmp > 0 ? current.rightChild : current.leftChild;
+        }
+        return false;
+    }
+
+    /**
+     * Removes a node from the tree
+     * pushes a red node down the search path so that the node finally
+     * unlinked is red and its removal can't cause a violation
+     *
+     * @param data generic data being removed from tree
+     * @return true if object was removed and false if not found
+     */
+    public boolean remove(T data) {
+        Node<T> found = null;
+        if (root != null) {
+            head.rightChild = root;
+
+            // grandparent, parent and current node
+            Node<T> g = null;
+            Node<T> p = null;
+            Node<T> q = head;
+            boolean dir = true;
+            while (child(q, dir) != null) {
+                boolean last = dir;
+                g = p;
+                p = q;
+                q = child(q, dir);
+                int cmp = compare(data, q.data);
+                // past the data the search continues to its in-order predecessor
+                dir = cmp > 0;
+                if (cmp == 0)
+                    found = q;
+
+                // current node and its next child are black, push a red node down
+                if (!isRed(q) && !isRed(child(q, dir))) {
+                    if (isRed(child(q, !dir))) {
+                        Node<T> newTop = rotate(q, dir);
+                        setChild(p, last, newTop);
+                        p = newTop;
+                    } else {
+                        Node<T> s = child(p, !last);
+                        if (s != null) {
+                            if (!isRed(s.leftChild) && !isRed(s.rightChild)) {
+                                // color flip
+                                p.isRed = false;
+                                s.isRed = true;
+                                q.isRed = true;
+                            } else {
+                                boolean dir2 = g.rightChild == p;
+                                Node<T> newTop = isRed(child(s, last)) ? doubleRotate(p, last) : rotate(p, last);
+                                setChild(g, dir2, newTop);
+                                q.isRed = true;
+                                newTop.isRed = true;
+                                newTop.leftChild.isRed = false;
+                                newTop.rightChild.isRed = false;
+                            }
+                        }
+                    }
+                }
+            }
+            // replace the found data with its predecessor and unlink the predecessor node
+            if (found != null) {
+                found.data = q.data;
+                setChild(p, p.rightChild == q, q.leftChild == null ? q.rightChild : q.leftChild);
+                size--;
+            }
+            root = head.rightChild;
+            head.rightChild = null;
+            if (root != null)
+                root.isRed = false;
+        }
+        return found != null;
+    }
+
+    /**
+     * returns the current number of nodes/data stored in the tree
+     *
+     * @return the number of items stored in the tree
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * empties all the data from the tree
+     */
+    public void clear() {
+        root = null;
+        size = 0;
+    }
+
+    /**
+     * counts the number of edges in
+     * the longest path in the tree from root to leaf node
+     * starting by root node
+     *
+     * @return the height of longest path in the tree
+     */
+    public int height() {
+        return root == null ? 0 : height(root);
+    }
+
+    /**
+     * recursive method that counts the number of edges in
+     * the longest path in the tree from root to leaf node
+     *
+     * @param node current node being looked at
+     * @return 1 more than the height to the leaf node
+     */
+    private int height(Node<T> node) {
+        int leftHeight = -1;
+        int rightHeight = -1;
+
+        if (node.leftChild != null)
+            leftHeight = height(node.leftChild);
+        if (node.rightChild != null)
+            rightHeight = height(node.rightChild);
+
+        return (leftHeight > rightHeight) ? leftHeight + 1 : rightHeight + 1;
+    }
+
+    /**
+     * counts the number of black nodes currently in the tree
+     * starting at the root node
+     *
+     * @return the number of black nodes in the tree
+     */
+    public int countBlack() {
+        return countBlack(root);
+    }
+
+    /**
+     * recursively counts the number of
+     * black nodes currently in the tree
+     *
+     * @param node current node being looked at
+     * @return the number of black nodes in the tree
+     */
+    private int countBlack(Node<T> node) {
+        if (node == null)
+            return 0;
+        return countBlack(node.leftChild) + countBlack(node.rightChild) + (node.isRed ? 0 : 1);
+    }
+
+    /**
+     * checks all red-black tree invariants in a single pass over the tree
+     * the data must be in order, no red node may have a red child,
+     * every path must have the same number of black nodes and the size must match
+     *
+     * @throws IllegalStateException describing the first violation found
+     */
+    public void verify() {
+        if (root == null) {
+            if (size != 0)
+                throw new IllegalStateException("empty tree has size " + size);
+            return;
+        }
+        if (root.isRed)
+            throw new IllegalStateException("root " + root.data + " is red");
+        int[] count = new int[1];
+        verify(root, null, null, count);
+        if (count[0] != size)
+            throw new IllegalStateException("tree holds " + count[0] + " nodes but size is " + size);
+    }
+
+    /**
+     * recursively checks the invariants of a subtree
+     *
+     * @param node  current node being looked at
+     * @param lower data no larger than every item of the subtree, null if unbounded
+     * @param upper data no smaller than every item of the subtree, null if unbounded
+     * @param count counter of the visited nodes
+     * @return the number of black nodes on every path from the node down to a null leaf
+     */
+    private int verify(Node<T> node, T lower, T upper, int[] count) {
+        if (node == null)
+            return 0;
+        count[0]++;
+        if (lower != null && compare(node.data, lower) < 0 || upper != null && compare(node.data, upper) > 0)
+            throw new IllegalStateException(node.data + " is out of order");
+        if (node.isRed && (isRed(node.leftChild) || isRed(node.rightChild)))
+            throw new IllegalStateException("red node " + node.data + " has a red child");
+        int leftBlack = verify(node.leftChild, lower, node.data, count);
+        int rightBlack = verify(node.rightChild, node.data, upper, count);
+        if (leftBlack != rightBlack)
+            throw new IllegalStateException(node.data + " has black heights " + leftBlack + " and " + rightBlack);
+        return node.isRed ? leftBlack : leftBlack + 1;
+    }
+
+    /**
+     * test if the tree is logically empty.
+     *
+     * @return true if empty, false otherwise.
+     */
+    public boolean isEmpty() {
+        return root == null;
+    }
+
+    /**
+     * Find the smallest item  the tree.
+     *
+     * @return the smallest item or null if empty.
+     */
+    @Nullable
+    public T findMin() {
+        if (isEmpty())
+            return null;
+
+        Node<T> node = root;
+        while (node.leftChild != null)
+            node = node.leftChild;
+        return node.data;
+    }
+
+    /**
+     * find the largest item in the tree.
+     *
+     * @return the largest item or null if empty.
+     */
+    @Nullable
+    public T findMax() {
+        if (isEmpty())
+            return null;
+
+        Node<T> node = root;
+        while (node.rightChild != null)
+            node = node.rightChild;
+        return node.data;
+    }
+
+    /**
+     * rotates the node being passed in down to the given side
+     * the new top node becomes black and the rotated node red
+     *
+     * @param node  the node being rotated
+     * @param right true to rotate to the right and false to rotate to the left
+     * @return returns the new top node after the rotation
+     */
+    private Node<T> rotate(@NotNull Node<T> node, boolean right) {
+        Node<T> newTop = child(node, !right);
+        setChild(node, !right, child(newTop, right));
+        setChild(newTop, right, node);
+        node.isRed = true;
+        newTop.isRed = false;
+        return newTop;
+    }
+
+    /**
+     * rotates the child on the opposite side first and then the node itself
+     *
+     * @param node  the node being rotated
+     * @param right true to rotate to the right and false to rotate to the left
+     * @return returns the new top node after the rotation
+     */
+    private Node<T> doubleRotate(@NotNull Node<T> node, boolean right) {
+        setChild(node, !right, rotate(child(node, !right), !right));
+        return rotate(node, right);
+    }
+
+    /**
+     * retrieves the child on the given side of the node
+     *
+     * @param node  the parent node
+     * @param right true for the right child and false for the left child
+     * @return the child on the given side
+     */
+    private Node<T> child(@NotNull Node<T> node, boolean right) {
+        return right ? node.rightChild : node.leftChild;
+    }
+
+    /**
+     * sets the child on the given side of the node
+     *
+     * @param node  the parent node
+     * @param right true for the right child and false for the left child
+     * @param child the new child
+     */
+    private void setChild(@NotNull Node<T> node, boolean right, Node<T> child) {
+        if (right)
+            node.rightChild = child;
+        else
+            node.leftChild = child;
+    }
+
+    /**
+     * checks the color of a node treating null leaves as black
+     *
+     * @param node the node being looked at
+     * @return true if the node is red
+     */
+    private boolean isRed(Node<T> node) {
+        return node != null && node.isRed;
+    }
+
+    /**
+     * compares two pieces of data of the tree
+     *
+     * @param first  the data being compared
+     * @param second the data it is compared to
+     * @return negative, zero or positive as first is smaller, equal or larger
+     */
+    @SuppressWarnings("unchecked")
+    private int compare(T first, T second) {
+        return ((Comparable<T>) first).compareTo(second);
+    }
+
+    /**
+     * returns an iterator over the items of the tree in sorted order
+     *
+     * @return an in-order iterator over the tree
+     */
+    @NotNull
+    @Override
+    public Iterator<T> iterator() {
+        return new InOrderIterator();
+    }
+
+    /**
+     * in-order iterator which keeps the path of left children
+     * still to be visited on a stack
+     */
+    private class InOrderIterator implements Iterator<T> {
+        private final Deque<Node<T>> stack = new ArrayDeque<>();
+
+        private InOrderIterator() {
+            pushLeft(root);
+        }
+
+        /**
+         * pushes the node and all of its left descendants onto the stack
+         *
+         * @param node the node to start from
+         */
+        private void pushLeft(Node<T> node) {
+            while (node != null) {
+                stack.push(node);
+                node = node.leftChild;
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return !stack.isEmpty();
+        }
+
+        @Override
+        public T next() {
+            if (stack.isEmpty())
+                throw new NoSuchElementException();
+            Node<T> node = stack.pop();
+            pushLeft(node.rightChild);
+            return node.data;
+        }
+    }
+
+    /**
+     * default method which prints out all the
+     * nodes in the tree in order starting at the root
+     */
+    public void printElements() {
+        for (T data : this)
+            System.out.println(data);
+    }
+
+    /**
+     * print all items in tree form.
+     */
+    public void printTree() {
+        printTree(this.root, "", true);
+    }
+
+    /**
+     * internal method to print a subtree in sorted order.
+     *
+     * @param node the node that roots the tree.
+     */
+    private void printTree(Node<T> node, String indent, boolean last) {
+        if (node != null) {
+            System.out.print(indent);
+            if (last) {
+                System.out.print("R----");
+                indent += "     ";
+            } else {
+                System.out.print("L----");
+                indent += "|    ";
+            }
+            System.out.println(node.data + (node.isRed ? "(RED)" : "(BLACK)"));
+            printTree(node.leftChild, indent, false);
+            printTree(node.rightChild, indent, true);
+        }
+    }
+}
@@ -1,20 +1,38 @@
 package dictionary;
 
 import datastructures.redblacktree.RedBlackTree;
+import datastructures.redblacktree.SortedTree;
+import org.jetbrains.annotations.Nullable;
 
 import java.io.BufferedReader;
 import java.io.File;
 import java.io.FileReader;
 import java.io.IOException;
 import java.net.URL;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.function.Supplier;
 
 public class Dictionary {
 
     public static RedBlackTree<String> load() {
-        RedBlackTree<String> tree = new RedBlackTree<>();
+        return load(RedBlackTree::new);
+    }
+
+    /**
+     * loads the words file into a tree of the chosen engine
+     *
+     * @param engine creates the empty tree to fill
+     * @param <E>    type of the tree engine
+     * @return the filled tree
+     */
+    public static <E extends SortedTree<String>> E load(Supplier<E> engine) {
+        E tree = engine.get();
         BufferedReader reader;
-        URL path = Dictionary.class.getResource("words.txt");
-        File file = new File(path.getFile());
+        File file = file();
         try {
             reader = new BufferedReader(new FileReader(file));
             String line = reader.readLine();
@@ -28,4 +46,181 @@ public class Dictionary {
         }
         return tree;
     }
+
+    /**
+     * locates the words file the dictionary is loaded from
+     *
+     * @return the words file
+     */
+    public static File file() {
+        URL path = Dictionary.class.getResource("words.txt");
+        return new File(path.getFile());
+    }
+
+    /**
+     * brings an already loaded tree up to date with the words file
+     * only the words that were added or removed since the last load are touched
+     *
+     * @param tree tree previously filled by {@link #load(Supplier)}
+     * @return the changes that were applied to the tree
+     */
+    public static Delta reload(SortedTree<String> tree) {
+        Delta delta = diff(tree);
+        delta.apply(tree);
+        return delta;
+    }
+
+    /**
+     * computes the changes needed to bring the tree up to date with the words file
+     * without modifying the tree
+     * the delta is empty if the file couldn't be read or changed while being read
+     *
+     * @param tree tree previously filled by {@link #load(Supplier)}
+     * @return the words to add to and remove from the tree
+     */
+    public static Delta diff(SortedTree<String> tree) {
+        String[] words = readSorted();
+        // keep the tree as it is if the file couldn't be read
+        if (words == null)
+            return new Delta();
+        return diff(tree, words);
+    }
+
+    /**
+     * computes the changes needed to bring the tree up to date with the words
+     * without modifying the tree
+     *
+     * @param tree  the tree being compared
+     * @param words sorted words the tree should hold, duplicates are allowed
+     * @return the words to add to and remove from the tree
+     */
+    public static Delta diff(SortedTree<String> tree, String[] words) {
+        return diff(tree.iterator(), words);
+    }
+
+    /**
+     * merges the sorted contents of the tree with the sorted words in a single pass
+     * duplicates on either side are collapsed into a single word
+     *
+     * @param current in-order iterator over the tree
+     * @param words   sorted words from the words file
+     * @return the words to add to and remove from the tree
+     */
+    private static Delta diff(Iterator<String> current, String[] words) {
+        Delta delta = new Delta();
+        String old = next(current);
+        String last = null;
+        int i = 0;
+        while (old != null || i < words.length) {
+            // duplicate line in the words file
+            if (i < words.length && words[i].equals(last)) {
+                i++;
+                continue;
+            }
+            // duplicate word in the tree
+            if (old != null && old.equals(last)) {
+                delta.removed.add(old);
+                old = next(current);
+                continue;
+            }
+            int cmp = old == null ? 1 : i == words.length ? -1 : old.compareTo(words[i]);
+            if (cmp < 0) {
+                // word no longer in the file
+                delta.removed.add(old);
+                old = next(current);
+            } else if (cmp > 0) {
+                // word new to the file
+                delta.added.add(words[i]);
+                last = words[i++];
+            } else {
+                last = old;
+                old = next(current);
+                i++;
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * advances the iterator
+     *
+     * @param iterator the iterator to advance
+     * @return the next item or null if there is none
+     */
+    @Nullable
+    private static String next(Iterator<String> iterator) {
+        return iterator.hasNext() ? iterator.next() : null;
+    }
+
+    /**
+     * reads all words from the words file
+     * the words are only sorted if the file isn't already in order
+     *
+     * @return the sorted words or null if the file couldn't be read or changed while being read
+     */
+    @Nullable
+    private static String[] readSorted() {
+        List<String> words = new ArrayList<>();
+        boolean sorted = true;
+        File file = file();
+        long length = file.length();
+        long modified = file.lastModified();
+        try (BufferedReader reader = new BufferedReader(new FileReader(file))) {
+            String line = reader.readLine();
+            while (line != null) {
+                if (sorted && !words.isEmpty() && words.get(words.size() - 1).compareTo(line) > 0)
+                    sorted = false;
+                words.add(line);
+                line = reader.readLine();
+            }
+        } catch (IOException e) {
+            e.printStackTrace();
+            return null;
+        }
+        // the file is still being written, the words read may be incomplete
+        if (file.length() != length || file.lastModified() != modified) {
+            System.err.println("Error: " + file + " changed while being read");
+            return null;
+        }
+        String[] array = words.toArray(new String[0]);
+        if (!sorted)
+            Arrays.sort(array);
+        return array;
+    }
+
+    /**
+     * Holds the words added to and removed from
+     * the words file between two loads
+     */
+    public static final class Delta {
+        private final List<String> added = new ArrayList<>();
+        private final List<String> removed = new ArrayList<>();
+
+        private Delta() {
+        }
+
+        /**
+         * applies the removals first and then the additions to the tree
+         *
+         * @param tree the tree the delta was computed against
+         */
+        public void apply(SortedTree<String> tree) {
+            for (String word : removed)
+                tree.remove(word);
+            for (String word : added)
+                tree.add(word);
+        }
+
+        public List<String> added() {
+            return Collections.unmodifiableList(added);
+        }
+
+        public List<String> removed() {
+            return Collections.unmodifiableList(removed);
+        }
+
+        public boolean isEmpty() {
+            return added.isEmpty() && removed.isEmpty();
+        }
+    }
 }
@@ -0,0 +1,188 @@
+package dictionary;
+
+import datastructures.redblacktree.SortedTree;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.Function;
+
+/**
+ * Keeps a loaded dictionary in sync with its words file
+ * reloads the changed words whenever the file is written or replaced
+ * readers never observe a partially applied reload
+ * <p>
+ * reloads wait until the file stopped changing and reads that overlap a write are discarded,
+ * renaming a completely written file over the words file is still the safest way to update it
+ */
+public class DictionaryWatcher implements Closeable {
+
+    /**
+     * time the directory has to stay quiet after a change before reloading
+     */
+    private static final long DEBOUNCE_MILLIS = 500;
+
+    private final SortedTree<String> tree;
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final WatchService watchService;
+    private final Path file;
+    private final Thread thread;
+
+    /**
+     * constructor for watching a freshly loaded dictionary
+     *
+     * @throws IOException if the words file can't be watched
+     */
+    public DictionaryWatcher() throws IOException {
+        this(Dictionary.load());
+    }
+
+    /**
+     * constructor for watching an already loaded dictionary
+     *
+     * @param tree tree previously filled by {@link Dictionary#load()}
+     * @throws IOException if the words file can't be watched
+     */
+    public DictionaryWatcher(SortedTree<String> tree) throws IOException {
+        this.tree = tree;
+        file = Dictionary.file().toPath().toAbsolutePath();
+        watchService = FileSystems.getDefault().newWatchService();
+        // renaming a file over the words file shows up as its creation
+        file.getParent().register(watchService,
+                StandardWatchEventKinds.ENTRY_CREATE,
+                StandardWatchEventKinds.ENTRY_MODIFY);
+        thread = new Thread(this::watch, "dictionary-watcher");
+        thread.setDaemon(true);
+    }
+
+    /**
+     * starts reloading the dictionary every time the words file changes
+     */
+    public void start() {
+        thread.start();
+    }
+
+    /**
+     * checks if the current version of the dictionary contains a word
+     *
+     * @param word the word that is trying to be found
+     * @return true if the word was found and false if not
+     */
+    public boolean contains(String word) {
+        return read(tree -> tree.contains(word));
+    }
+
+    /**
+     * returns the number of words in the current version of the dictionary
+     *
+     * @return the number of words
+     */
+    public int size() {
+        return read(SortedTree::size);
+    }
+
+    /**
+     * runs a read-only query against the current version of the dictionary
+     * the tree must not be modified or leaked by the query
+     *
+     * @param query the query to run
+     * @param <R>   type of the query result
+     * @return the result of the query
+     */
+    public <R> R read(Function<SortedTree<String>, R> query) {
+        lock.readLock().lock();
+        try {
+            return query.apply(tree);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * brings the dictionary up to date with the words file
+     * the delta is computed while readers keep going
+     * and only applying it blocks them
+     *
+     * @return the changes that were applied
+     */
+    public synchronized Dictionary.Delta reload() {
+        Dictionary.Delta delta = read(Dictionary::diff);
+        if (!delta.isEmpty()) {
+            lock.writeLock().lock();
+            try {
+                delta.apply(tree);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+        return delta;
+    }
+
+    /**
+     * waits for changes of the words file until the watcher is closed
+     * bursts of events are collapsed into a single reload once the directory is quiet
+     * a failed reload is reported and the watcher keeps going
+     */
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = changed(key);
+                if (!key.reset())
+                    return;
+                if (!changed)
+                    continue;
+                // wait until the directory stopped changing
+                while ((key = watchService.poll(DEBOUNCE_MILLIS, TimeUnit.MILLISECONDS)) != null) {
+                    changed(key);
+                    if (!key.reset())
+                        return;
+                }
+                try {
+                    reload();
+                } catch (RuntimeException e) {
+                    System.err.println("Error: reloading " + file + " failed");
+                    e.printStackTrace();
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ClosedWatchServiceException e) {
+            // watcher was closed
+        }
+    }
+
+    /**
+     * takes the pending events of the key
+     *
+     * @param key the signalled key of the watched directory
+     * @return true if one of the events was about the words file
+     */
+    private boolean changed(WatchKey key) {
+        boolean changed = false;
+        for (WatchEvent<?> event : key.pollEvents()) {
+            if (file.getFileName().equals(event.context()))
+                changed = true;
+        }
+        return changed;
+    }
+
+    /**
+     * stops watching the words file
+     *
+     * @throws IOException if the watch service can't be closed
+     */
+    @Override
+    public void close() throws IOException {
+        watchService.close();
+    }
+}
@@ -0,0 +1,130 @@
+package main;
+
+import datastructures.redblacktree.RedBlackTree;
+import datastructures.redblacktree.SortedTree;
+import datastructures.redblacktree.TopDownRedBlackTree;
+import dictionary.Dictionary;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+/**
+ * Compares the red-black tree engines on the words of the dictionary
+ * every engine runs the same operations on the same word order
+ */
+public class Benchmark {
+
+    private static final int ROUNDS = 5;
+    private static final long SEED = 42;
+
+    public static void main(String[] args) throws IOException {
+        // the words in the order they appear in the words file, which is nearly sorted
+        List<String> words = Files.readAllLines(Dictionary.file().toPath());
+
+        List<String> shuffled = new ArrayList<>(words);
+        Collections.shuffle(shuffled, new Random(SEED));
+
+        System.out.println("file order input (" + words.size() + " words)");
+        run("bottom-up", RedBlackTree::new, words);
+        run("top-down", TopDownRedBlackTree::new, words);
+
+        System.out.println("shuffled input (" + shuffled.size() + " words)");
+        run("bottom-up", RedBlackTree::new, shuffled);
+        run("top-down", TopDownRedBlackTree::new, shuffled);
+
+        System.out.println("aggregates (" + Runtime.getRuntime().availableProcessors() + " cores)");
+        aggregate(shuffled);
+    }
+
+    /**
+     * compares walking the tree on one thread with the fork-join operations
+     * keeps the best time of each operation over all rounds
+     *
+     * @param words the words the tree is built from
+     */
+    private static void aggregate(List<String> words) {
+        RedBlackTree<String> tree = new RedBlackTree<>();
+        for (String word : words)
+            tree.add(word);
+
+        long count = Long.MAX_VALUE;
+        long countParallel = Long.MAX_VALUE;
+        long copy = Long.MAX_VALUE;
+        long copyParallel = Long.MAX_VALUE;
+        for (int round = 0; round < ROUNDS; round++) {
+            long start = System.nanoTime();
+            int sequential = 0;
+            for (String word : tree)
+                if (word.length() > 8)
+                    sequential++;
+            count = Math.min(count, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            int parallel = tree.count(word -> word.length() > 8);
+            countParallel = Math.min(countParallel, System.nanoTime() - start);
+            if (parallel != sequential)
+                throw new IllegalStateException("counted " + parallel + " instead of " + sequential);
+
+            start = System.nanoTime();
+            String[] array = new String[tree.size()];
+            int i = 0;
+            for (String word : tree)
+                array[i++] = word;
+            copy = Math.min(copy, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            String[] parallelArray = tree.toSortedArray(new String[tree.size()]);
+            copyParallel = Math.min(copyParallel, System.nanoTime() - start);
+            if (!Arrays.equals(array, parallelArray))
+                throw new IllegalStateException("sorted arrays differ");
+        }
+        System.out.printf("  %-10s count %5d ms  to array %5d ms%n", "iterator", count / 1_000_000, copy / 1_000_000);
+        System.out.printf("  %-10s count %5d ms  to array %5d ms%n", "fork-join", countParallel / 1_000_000, copyParallel / 1_000_000);
+    }
+
+    /**
+     * adds, looks up and removes all words with one engine
+     * keeps the best time of each operation over all rounds
+     *
+     * @param name   name of the engine being printed
+     * @param engine creates an empty tree of the engine
+     * @param words  the words to run the operations on
+     */
+    private static void run(String name, Supplier<SortedTree<String>> engine, List<String> words) {
+        long add = Long.MAX_VALUE;
+        long contains = Long.MAX_VALUE;
+        long remove = Long.MAX_VALUE;
+        int height = 0;
+        for (int round = 0; round < ROUNDS; round++) {
+            SortedTree<String> tree = engine.get();
+
+            long start = System.nanoTime();
+            for (String word : words)
+                tree.add(word);
+            add = Math.min(add, System.nanoTime() - start);
+            height = tree.height();
+
+            start = System.nanoTime();
+            for (String word : words)
+                if (!tree.contains(word))
+                    throw new IllegalStateException("missing word " + word);
+            contains = Math.min(contains, System.nanoTime() - start);
+
+            start = System.nanoTime();
+            for (String word : words)
+                tree.remove(word);
+            remove = Math.min(remove, System.nanoTime() - start);
+
+            if (!tree.isEmpty())
+                throw new IllegalStateException(name + " kept " + tree.size() + " words");
+        }
+        System.out.printf("  %-10s add %5d ms  contains %5d ms  remove %5d ms  height %d%n",
+                name, add / 1_000_000, contains / 1_000_000, remove / 1_000_000, height);
+    }
+}
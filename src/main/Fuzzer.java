@@ -0,0 +1,278 @@
+package main;
+
+import datastructures.redblacktree.RedBlackTree;
+import datastructures.redblacktree.SortedTree;
+import datastructures.redblacktree.TopDownRedBlackTree;
+import dictionary.Dictionary;
+
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Queue;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.function.Consumer;
+
+/**
+ * Randomized differential test of the red-black tree engines against a {@link TreeMap} multiset
+ * every operation is followed by a full invariant check and the height bound of 2 * log2(n + 1)
+ * parallel rounds compare the fork-join operations of {@link RedBlackTree} on trees large enough to be split
+ * diff rounds check that {@link Dictionary#diff} brings a tree holding duplicates up to date with a word list
+ * exits with a non-zero status on the first failure
+ * <p>
+ * usage: Fuzzer [seed] [rounds]
+ */
+public class Fuzzer {
+
+    private static final int ROUNDS = 100;
+    private static final int OPERATIONS = 2000;
+    private static final int MAX_KEYS = 1024;
+    /**
+     * smallest and largest tree of the parallel rounds before an eighth of the items is removed
+     * RedBlackTree only splits trees of at least 8192 items between threads
+     */
+    private static final int MIN_PARALLEL_ITEMS = 10000;
+    private static final int MAX_PARALLEL_ITEMS = 40000;
+
+    public static void main(String[] args) {
+        long seed = args.length > 0 ? Long.parseLong(args[0]) : System.nanoTime();
+        int rounds = args.length > 1 ? Integer.parseInt(args[1]) : ROUNDS;
+        System.out.println("seed " + seed + ", " + rounds + " rounds");
+
+        boolean passed = fuzz("bottom-up", random -> round(new RedBlackTree<>(), random), seed, rounds);
+        passed &= fuzz("top-down", random -> round(new TopDownRedBlackTree<>(), random), seed, rounds);
+        passed &= fuzz("bottom-up diff", random -> diffRound(new RedBlackTree<>(), random), seed, rounds);
+        passed &= fuzz("top-down diff", random -> diffRound(new TopDownRedBlackTree<>(), random), seed, rounds);
+        passed &= fuzz("bottom-up parallel", random -> parallelRound(new RedBlackTree<>(), random), seed, rounds);
+        System.exit(passed ? 0 : 1);
+    }
+
+    /**
+     * runs the rounds of one kind against one engine
+     * each round gets its own seed so a failing round can be replayed alone
+     *
+     * @param name   name of the rounds being printed
+     * @param round  runs a single round on a fresh tree
+     * @param seed   seed of the first round
+     * @param rounds number of rounds to run
+     * @return true if all rounds passed
+     */
+    private static boolean fuzz(String name, Consumer<Random> round, long seed, int rounds) {
+        long start = System.nanoTime();
+        for (int i = 0; i < rounds; i++) {
+            try {
+                round.accept(new Random(seed + i));
+            } catch (RuntimeException e) {
+                System.out.println(name + " failed in round " + i + " (seed " + (seed + i) + "): " + e.getMessage());
+                return false;
+            }
+        }
+        System.out.println(name + " passed in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return true;
+    }
+
+    /**
+     * applies the same random operations to the tree and to a multiset of the expected items
+     * mixes random keys with runs of ascending and descending keys
+     * keys are added again while they are already in the tree, covering duplicates
+     *
+     * @param tree   the tree being tested
+     * @param random source of the operations
+     */
+    private static void round(SortedTree<Integer> tree, Random random) {
+        // expected items mapped to how many times they are in the tree
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        int keys = 1 + random.nextInt(MAX_KEYS);
+        int next = random.nextInt(keys);
+        for (int operation = 0; operation < OPERATIONS; operation++) {
+            int choice = random.nextInt(100);
+            int key;
+            if (choice < 10)
+                key = next++ % keys;
+            else if (choice < 15)
+                key = Math.floorMod(next--, keys);
+            else
+                key = random.nextInt(keys);
+
+            if (choice < 55) {
+                check(tree.add(key), "add " + key);
+                expected.merge(key, 1, Integer::sum);
+            } else if (choice < 85) {
+                boolean present = expected.containsKey(key);
+                if (present)
+                    expected.compute(key, (ignored, count) -> count == 1 ? null : count - 1);
+                check(remove(tree, key, present) == present, "remove " + key);
+            } else if (choice < 99) {
+                check(tree.contains(key) == expected.containsKey(key), "contains " + key);
+            } else {
+                tree.clear();
+                expected.clear();
+            }
+            verify(tree, expected);
+        }
+    }
+
+    /**
+     * removes the key from the tree
+     * {@link RedBlackTree} prints an error for a missing key,
+     * only that single call runs with the standard output silenced
+     *
+     * @param tree    the tree being tested
+     * @param key     the key being removed
+     * @param present true if the key is expected in the tree
+     * @return the result of the removal
+     */
+    private static boolean remove(SortedTree<Integer> tree, int key, boolean present) {
+        if (present || !(tree instanceof RedBlackTree))
+            return tree.remove(key);
+        PrintStream out = System.out;
+        System.setOut(new PrintStream(OutputStream.nullOutputStream()));
+        try {
+            return tree.remove(key);
+        } finally {
+            System.setOut(out);
+        }
+    }
+
+    /**
+     * brings a random tree up to date with a random sorted word list through {@link Dictionary#diff}
+     * both sides hold duplicates, the tree must end up with every distinct word exactly once
+     *
+     * @param tree   the tree being tested
+     * @param random source of the words
+     */
+    private static void diffRound(SortedTree<String> tree, Random random) {
+        int keys = 1 + random.nextInt(MAX_KEYS);
+        int items = random.nextInt(2 * keys);
+        for (int i = 0; i < items; i++)
+            tree.add("w" + random.nextInt(keys));
+        for (int i = 0; i < items / 4; i++) {
+            String word = "w" + random.nextInt(keys);
+            if (tree.contains(word))
+                tree.remove(word);
+        }
+        String[] words = new String[random.nextInt(2 * keys)];
+        for (int i = 0; i < words.length; i++)
+            words[i] = "w" + random.nextInt(keys);
+        Arrays.sort(words);
+
+        int size = tree.size();
+        Dictionary.Delta delta = Dictionary.diff(tree, words);
+        check(tree.size() == size, "diff modified the tree");
+        delta.apply(tree);
+        tree.verify();
+
+        List<String> actual = new ArrayList<>(tree.size());
+        for (String word : tree)
+            actual.add(word);
+        check(actual.equals(new ArrayList<>(new TreeSet<>(Arrays.asList(words)))), "tree differs from the words");
+        check(Dictionary.diff(tree, words).isEmpty(), "second diff isn't empty");
+    }
+
+    /**
+     * compares the fork-join operations against the expected items on a tree large enough to be split
+     * the tree is built from ascending, descending, densely duplicated or random keys
+     * and then has some of its items removed
+     *
+     * @param tree   the tree being tested
+     * @param random source of the items
+     */
+    private static void parallelRound(RedBlackTree<Integer> tree, Random random) {
+        TreeMap<Integer, Integer> expected = new TreeMap<>();
+        int items = MIN_PARALLEL_ITEMS + random.nextInt(MAX_PARALLEL_ITEMS - MIN_PARALLEL_ITEMS);
+        int shape = random.nextInt(4);
+        for (int i = 0; i < items; i++) {
+            int key;
+            if (shape == 0)
+                key = i;
+            else if (shape == 1)
+                key = items - i;
+            else if (shape == 2)
+                key = random.nextInt(items / 16);
+            else
+                key = random.nextInt();
+            tree.add(key);
+            expected.merge(key, 1, Integer::sum);
+        }
+        // removing items keeps the tree above the split threshold
+        for (int i = 0; i < items / 8; i++) {
+            long first = expected.firstKey();
+            long last = expected.lastKey();
+            int key = expected.ceilingKey((int) (first + (long) (random.nextDouble() * (last - first))));
+            expected.compute(key, (ignored, count) -> count == 1 ? null : count - 1);
+            check(tree.remove(key), "remove " + key);
+        }
+        tree.verify();
+
+        List<Integer> sorted = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+            sorted.addAll(Collections.nCopies(entry.getValue(), entry.getKey()));
+        check(tree.size() == sorted.size(), "size " + tree.size() + " instead of " + sorted.size());
+
+        Integer[] array = tree.toSortedArray(new Integer[tree.size()]);
+        check(Arrays.asList(array).equals(sorted), "toSortedArray differs");
+
+        // polynomial hash, associative but depends on the order of the items
+        long[] hash = tree.reduce(new long[]{0, 1},
+                (partial, data) -> new long[]{partial[0] * 31 + data, partial[1] * 31},
+                (first, second) -> new long[]{first[0] * second[1] + second[0], first[1] * second[1]});
+        long expectedHash = 0;
+        for (int data : sorted)
+            expectedHash = expectedHash * 31 + data;
+        check(hash[0] == expectedHash, "reduce differs");
+
+        long multiples = sorted.stream().filter(data -> data % 3 == 0).count();
+        check(tree.count(data -> data % 3 == 0) == multiples, "count differs");
+
+        Queue<Integer> visited = new ConcurrentLinkedQueue<>();
+        tree.forEachParallel(visited::add);
+        List<Integer> visitedSorted = new ArrayList<>(visited);
+        Collections.sort(visitedSorted);
+        check(visitedSorted.equals(sorted), "forEachParallel differs");
+    }
+
+    /**
+     * checks the tree invariants and compares the tree against the expected items
+     *
+     * @param tree     the tree being tested
+     * @param expected the items the tree should hold mapped to how many times they are in it
+     */
+    private static void verify(SortedTree<Integer> tree, TreeMap<Integer, Integer> expected) {
+        tree.verify();
+        List<Integer> items = new ArrayList<>();
+        for (Map.Entry<Integer, Integer> entry : expected.entrySet())
+            items.addAll(Collections.nCopies(entry.getValue(), entry.getKey()));
+        int n = items.size();
+        check(tree.size() == n, "size " + tree.size() + " instead of " + n);
+        check(tree.isEmpty() == expected.isEmpty(), "isEmpty");
+        check(Objects.equals(tree.findMin(), expected.isEmpty() ? null : expected.firstKey()), "findMin");
+        check(Objects.equals(tree.findMax(), expected.isEmpty() ? null : expected.lastKey()), "findMax");
+        check(tree.height() <= 2 * Math.log(n + 1) / Math.log(2),
+                "height " + tree.height() + " above 2 * log2(" + (n + 1) + ")");
+
+        List<Integer> actual = new ArrayList<>(n);
+        Iterator<Integer> iterator = tree.iterator();
+        while (iterator.hasNext())
+            actual.add(iterator.next());
+        check(actual.equals(items), "in-order items differ");
+    }
+
+    /**
+     * fails the round if the condition doesn't hold
+     *
+     * @param condition the condition being checked
+     * @param message   description of the failed check
+     */
+    private static void check(boolean condition, String message) {
+        if (!condition)
+            throw new IllegalStateException(message);
+    }
+}